@@ -0,0 +1,602 @@
+package com.sorting.sorting;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Sample sort spread over several worker JVMs on the local machine, talking over loopback sockets.
+ * The coordinator scatters the input, picks splitters from the workers' samples, the workers exchange
+ * records all-to-all so each owns one key range, sort it locally with one of the existing sorters,
+ * and send it back in key order.
+ */
+public class DistributedSampleSort implements AutoCloseable {
+
+    /**
+     * Local sorting engine used by every worker
+     */
+    public enum Engine {
+        // Lomuto partition: quadratic and deeply recursive on many equal keys, prefer HEAP for such input
+        QUICK(a -> {
+            if (a.length > 1) {
+                QuickSort.quickSort(a, 0, a.length - 1);
+            }
+        }),
+        HEAP(HeapSort::sort),
+        // Non-negative values only, like RadixSort itself
+        RADIX(a -> {
+            if (a.length > 0) {
+                RadixSort.radixSort(a, a.length);
+            }
+        }),
+        INSERTION(InsertionSort::insertionSort);
+
+        private final Consumer<int[]> sorter;
+
+        Engine(Consumer<int[]> sorter) {
+            this.sorter = sorter;
+        }
+
+        void sort(int[] array) {
+            sorter.accept(array);
+        }
+    }
+
+    /**
+     * Wall time of every phase of one sort, in nanoseconds. Shuffle and local sort are the slowest worker's times,
+     * and largestRange is the size of the biggest key range, showing how evenly the splitters divided the input.
+     */
+    public record PhaseTimings(int workers, int largestRange, long scatterNanos, long sampleNanos, long shuffleNanos,
+                               long localSortNanos, long gatherNanos, long totalNanos) {
+        @Override
+        public String toString() {
+            return String.format("workers=%d largestRange=%d scatter=%.1fms sample=%.1fms shuffle=%.1fms localSort=%.1fms gather=%.1fms total=%.1fms",
+                    workers, largestRange, scatterNanos / 1e6, sampleNanos / 1e6, shuffleNanos / 1e6,
+                    localSortNanos / 1e6, gatherNanos / 1e6, totalNanos / 1e6);
+        }
+    }
+
+    // Protocol opcodes sent from the coordinator to a worker
+    private static final int READY = 1;
+    private static final int JOB = 2;
+    private static final int SHUTDOWN = 3;
+
+    // Samples drawn per worker and per key range
+    private static final int OVERSAMPLING = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CONNECT_TIMEOUT_MS = 30_000;
+
+    private final int workers;
+    private final Engine engine;
+    private final Process[] processes;
+    private final Socket[] sockets;
+    private final DataInputStream[] ins;
+    private final DataOutputStream[] outs;
+    private boolean broken;
+    private boolean closed;
+
+    /**
+     * Start the worker JVMs with no extra JVM options
+     * @param workers Number of worker processes
+     * @param engine Sorter each worker uses for its key range
+     */
+    public DistributedSampleSort(int workers, @NotNull Engine engine) throws IOException {
+        this(workers, engine, List.of());
+    }
+
+    /**
+     * Start the worker JVMs
+     * @param workers Number of worker processes
+     * @param engine Sorter each worker uses for its key range
+     * @param jvmArgs Extra options for the worker JVMs, e.g. "-Xmx2g"
+     */
+    public DistributedSampleSort(int workers, @NotNull Engine engine, @NotNull List<String> jvmArgs) throws IOException {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        this.workers = workers;
+        this.engine = engine;
+        this.processes = new Process[workers];
+        this.sockets = new Socket[workers];
+        this.ins = new DataInputStream[workers];
+        this.outs = new DataOutputStream[workers];
+
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT_MS);
+            for (int w = 0; w < workers; w++) {
+                processes[w] = new ProcessBuilder(workerCommand(jvmArgs, server.getLocalPort(), w)).inheritIO().start();
+            }
+
+            // Workers register with their id and the port they accept peer connections on
+            int[] peerPorts = new int[workers];
+            for (int w = 0; w < workers; w++) {
+                Socket socket = server.accept();
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+                int id = in.readInt();
+                peerPorts[id] = in.readInt();
+                sockets[id] = socket;
+                ins[id] = in;
+                outs[id] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+            }
+
+            for (DataOutputStream out : outs) {
+                writeInts(out, peerPorts, 0, workers);
+                out.flush();
+            }
+            for (DataInputStream in : ins) {
+                if (in.read() != READY) {
+                    throw new IOException("Worker failed to connect to its peers");
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private static @NotNull List<String> workerCommand(@NotNull List<String> jvmArgs, int port, int id) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+
+        // Launch the worker the same way this JVM was launched, as a module or from the class path
+        String modulePath = System.getProperty("jdk.module.path");
+        if (modulePath != null) {
+            command.add("-p");
+            command.add(modulePath);
+            command.add("-m");
+            command.add(DistributedSampleSort.class.getModule().getName() + "/" + DistributedSampleSort.class.getName());
+        } else {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(DistributedSampleSort.class.getName());
+        }
+
+        command.add("worker");
+        command.add(Integer.toString(port));
+        command.add(Integer.toString(id));
+        return command;
+    }
+
+    /**
+     * Sort the array in place; the result is gathered back by concatenating the workers' key ranges.
+     * If the sort fails during the gather, the array is left partly overwritten.
+     * @param array The array to sort
+     * @return Timings of every phase
+     */
+    public PhaseTimings sort(int @NotNull [] array) throws IOException {
+        // The whole input is scattered before anything is gathered, so writing back in place is safe
+        int[] position = {0};
+        return sort(array, value -> array[position[0]++] = value);
+    }
+
+    /**
+     * Sort the data and stream the result to the sink in ascending order, without materialising it
+     * @param data The data to sort, left unchanged
+     * @param sink Receives every value in sorted order
+     * @return Timings of every phase
+     * @throws IllegalStateException If this instance is closed, or was shut down by an earlier failed sort
+     */
+    public synchronized PhaseTimings sort(int @NotNull [] data, @NotNull IntConsumer sink) throws IOException {
+        if (closed) {
+            throw new IllegalStateException(broken
+                    ? "Workers were shut down after an earlier sort failed"
+                    : "DistributedSampleSort is closed");
+        }
+
+        // A job that fails halfway leaves unread data on the sockets, so the workers can't be reused
+        try {
+            return runJob(data, sink);
+        } catch (IOException e) {
+            broken = true;
+            close();
+            throw new IOException("Lost connection to a worker, workers shut down (see the worker output for the cause)", e);
+        } catch (RuntimeException e) {
+            broken = true;
+            close();
+            throw e;
+        }
+    }
+
+    private PhaseTimings runJob(int @NotNull [] data, @NotNull IntConsumer sink) throws IOException {
+        long start = System.nanoTime();
+
+        // Scatter: contiguous partitions, one per worker
+        int n = data.length;
+        for (int w = 0; w < workers; w++) {
+            int from = (int) ((long) n * w / workers);
+            int to = (int) ((long) n * (w + 1) / workers);
+            outs[w].writeByte(JOB);
+            outs[w].writeInt(engine.ordinal());
+            outs[w].writeInt(OVERSAMPLING * workers);
+            outs[w].writeInt(from);
+            writeInts(outs[w], data, from, to);
+            outs[w].flush();
+        }
+        long scattered = System.nanoTime();
+
+        // Sample: merge the workers' sampled keys and pick evenly spaced splitters
+        long[][] samples = new long[workers][];
+        int sampleCount = 0;
+        for (int w = 0; w < workers; w++) {
+            samples[w] = readLongs(ins[w]);
+            sampleCount += samples[w].length;
+        }
+        long[] allSamples = new long[sampleCount];
+        int offset = 0;
+        for (long[] sample : samples) {
+            System.arraycopy(sample, 0, allSamples, offset, sample.length);
+            offset += sample.length;
+        }
+        Arrays.sort(allSamples);
+
+        long[] splitters = new long[workers - 1];
+        for (int i = 0; i < splitters.length; i++) {
+            splitters[i] = sampleCount == 0 ? Long.MAX_VALUE : allSamples[(int) ((long) sampleCount * (i + 1) / workers)];
+        }
+        for (DataOutputStream out : outs) {
+            writeLongs(out, splitters);
+            out.flush();
+        }
+        long sampled = System.nanoTime();
+
+        // Workers report once their range is shuffled and sorted
+        long shuffleNanos = 0;
+        long localSortNanos = 0;
+        int largestRange = 0;
+        for (DataInputStream in : ins) {
+            shuffleNanos = Math.max(shuffleNanos, in.readLong());
+            localSortNanos = Math.max(localSortNanos, in.readLong());
+            largestRange = Math.max(largestRange, in.readInt());
+        }
+        long computed = System.nanoTime();
+
+        // Gather: worker w owns the w-th key range, so reading them in order yields sorted output
+        for (DataInputStream in : ins) {
+            readInts(in, sink);
+        }
+        long gathered = System.nanoTime();
+
+        return new PhaseTimings(workers, largestRange, scattered - start, sampled - scattered, shuffleNanos,
+                localSortNanos, gathered - computed, gathered - start);
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Shut the workers down; calling it again has no effect
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        for (int w = 0; w < workers; w++) {
+            // After a failure the worker may not be reading, closing the socket alone makes it exit
+            if (outs[w] != null && !broken) {
+                try {
+                    outs[w].writeByte(SHUTDOWN);
+                    outs[w].flush();
+                } catch (IOException e) {
+                    // The worker is already gone
+                }
+            }
+            if (sockets[w] != null) {
+                try {
+                    sockets[w].close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+        for (Process process : processes) {
+            if (process == null) {
+                continue;
+            }
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Worker side: connect to the coordinator and the peers, then serve jobs until shut down
+    private static void runWorker(int coordinatorPort, int id) throws IOException, InterruptedException, ExecutionException {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        try (ServerSocket peerServer = new ServerSocket(0, 50, loopback);
+             Socket coordinator = new Socket(loopback, coordinatorPort)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(coordinator.getInputStream(), BUFFER_SIZE));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(coordinator.getOutputStream(), BUFFER_SIZE));
+            out.writeInt(id);
+            out.writeInt(peerServer.getLocalPort());
+            out.flush();
+
+            // Full mesh: connect to every lower id, accept every higher one
+            int[] peerPorts = readInts(in);
+            int workers = peerPorts.length;
+            Socket[] peers = new Socket[workers];
+            for (int j = 0; j < id; j++) {
+                peers[j] = new Socket(loopback, peerPorts[j]);
+                DataOutputStream hello = new DataOutputStream(peers[j].getOutputStream());
+                hello.writeInt(id);
+                hello.flush();
+            }
+            for (int accepted = id + 1; accepted < workers; accepted++) {
+                Socket socket = peerServer.accept();
+                peers[new DataInputStream(socket.getInputStream()).readInt()] = socket;
+            }
+
+            DataInputStream[] peerIns = new DataInputStream[workers];
+            DataOutputStream[] peerOuts = new DataOutputStream[workers];
+            for (int j = 0; j < workers; j++) {
+                if (j != id) {
+                    peerIns[j] = new DataInputStream(new BufferedInputStream(peers[j].getInputStream(), BUFFER_SIZE));
+                    peerOuts[j] = new DataOutputStream(new BufferedOutputStream(peers[j].getOutputStream(), BUFFER_SIZE));
+                }
+            }
+            out.writeByte(READY);
+            out.flush();
+
+            ExecutorService receivers = Executors.newFixedThreadPool(Math.max(1, workers - 1));
+            Random random = new Random();
+            try {
+                while (in.read() == JOB) {
+                    Engine engine = Engine.values()[in.readInt()];
+                    int sampleSize = in.readInt();
+                    int position = in.readInt();
+                    int[] partition = readInts(in);
+                    int n = partition.length;
+
+                    // Sample with replacement from the partition
+                    long[] sample = new long[Math.min(sampleSize, n)];
+                    for (int i = 0; i < sample.length; i++) {
+                        int index = random.nextInt(n);
+                        sample[i] = sortKey(partition[index], position + index);
+                    }
+                    writeLongs(out, sample);
+                    out.flush();
+
+                    long[] splitters = readLongs(in);
+                    long shuffleStart = System.nanoTime();
+
+                    // Group the partition by destination worker: count first, then place, without a per-element bucket array
+                    int[] bounds = new int[workers + 1];
+                    for (int i = 0; i < n; i++) {
+                        bounds[bucketIndex(splitters, sortKey(partition[i], position + i)) + 1]++;
+                    }
+                    for (int j = 0; j < workers; j++) {
+                        bounds[j + 1] += bounds[j];
+                    }
+                    int[] grouped = new int[n];
+                    int[] next = bounds.clone();
+                    for (int i = 0; i < n; i++) {
+                        grouped[next[bucketIndex(splitters, sortKey(partition[i], position + i))]++] = partition[i];
+                    }
+                    partition = null; // Let the partition be collected before the exchange
+
+                    // Tell every peer how much it will receive, so it can size its range up front
+                    for (int j = 0; j < workers; j++) {
+                        if (j != id) {
+                            peerOuts[j].writeInt(bounds[j + 1] - bounds[j]);
+                            peerOuts[j].flush();
+                        }
+                    }
+                    int[] offsets = new int[workers + 1];
+                    for (int j = 0; j < workers; j++) {
+                        offsets[j + 1] = offsets[j] + (j == id ? bounds[id + 1] - bounds[id] : peerIns[j].readInt());
+                    }
+                    int[] local = new int[offsets[workers]];
+                    System.arraycopy(grouped, bounds[id], local, offsets[id], bounds[id + 1] - bounds[id]);
+
+                    // All-to-all exchange: receive straight into the range on separate threads so writers never block each other
+                    List<Future<?>> incoming = new ArrayList<>();
+                    for (int j = 0; j < workers; j++) {
+                        if (j != id) {
+                            final DataInputStream peerIn = peerIns[j];
+                            final int from = offsets[j];
+                            final int count = offsets[j + 1] - offsets[j];
+                            incoming.add(receivers.submit(() -> {
+                                readInts(peerIn, local, from, count);
+                                return null;
+                            }));
+                        }
+                    }
+                    for (int j = 0; j < workers; j++) {
+                        if (j != id) {
+                            writeBlock(peerOuts[j], grouped, bounds[j], bounds[j + 1]);
+                            peerOuts[j].flush();
+                        }
+                    }
+                    grouped = null;
+                    for (Future<?> received : incoming) {
+                        received.get();
+                    }
+                    long sortStart = System.nanoTime();
+
+                    engine.sort(local);
+                    long sortEnd = System.nanoTime();
+
+                    out.writeLong(sortStart - shuffleStart);
+                    out.writeLong(sortEnd - sortStart);
+                    out.writeInt(local.length);
+                    writeInts(out, local, 0, local.length);
+                    out.flush();
+                }
+            } finally {
+                receivers.shutdownNow();
+                for (Socket peer : peers) {
+                    if (peer != null) {
+                        peer.close();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Key used to split the input: the value, with its position in the whole input as tie breaker.
+     * Every key is distinct, so equal values are split between key ranges in proportion to the sample
+     * instead of all copies of a repeated value landing on one worker.
+     * @param value The value
+     * @param position Position of the value in the input to sort
+     * @return A key that orders like (value, position)
+     */
+    static long sortKey(int value, int position) {
+        return ((long) value << 32) | position;
+    }
+
+    // Index of the key range owned by a worker: the first splitter that is >= key, or the last range
+    static int bucketIndex(long @NotNull [] splitters, long key) {
+        int low = 0;
+        int high = splitters.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (splitters[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Write a length-prefixed block of ints
+    private static void writeInts(@NotNull DataOutputStream out, int @NotNull [] array, int from, int to) throws IOException {
+        out.writeInt(to - from);
+        writeBlock(out, array, from, to);
+    }
+
+    // Write ints through a byte buffer instead of one writeInt per value
+    private static void writeBlock(@NotNull DataOutputStream out, int @NotNull [] array, int from, int to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        for (int i = from; i < to; ) {
+            int count = Math.min(to - i, BUFFER_SIZE / Integer.BYTES);
+            buffer.clear();
+            buffer.asIntBuffer().put(array, i, count);
+            out.write(buffer.array(), 0, count * Integer.BYTES);
+            i += count;
+        }
+    }
+
+    // Samples and splitters are small, so they are written one value at a time
+    private static void writeLongs(@NotNull DataOutputStream out, long @NotNull [] array) throws IOException {
+        out.writeInt(array.length);
+        for (long value : array) {
+            out.writeLong(value);
+        }
+    }
+
+    private static long @NotNull [] readLongs(@NotNull DataInputStream in) throws IOException {
+        long[] array = new long[in.readInt()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = in.readLong();
+        }
+        return array;
+    }
+
+    private static int @NotNull [] readInts(@NotNull DataInputStream in) throws IOException {
+        int[] array = new int[in.readInt()];
+        readInts(in, array, 0, array.length);
+        return array;
+    }
+
+    // Read length ints without a length prefix into target starting at from
+    private static void readInts(@NotNull DataInputStream in, int @NotNull [] target, int from, int length) throws IOException {
+        readBlock(in, length, (buffer, offset, count) -> buffer.asIntBuffer().get(target, from + offset, count));
+    }
+
+    private static void readInts(@NotNull DataInputStream in, @NotNull IntConsumer sink) throws IOException {
+        readBlock(in, in.readInt(), (buffer, offset, count) -> {
+            for (int i = 0; i < count; i++) {
+                sink.accept(buffer.getInt(i * Integer.BYTES));
+            }
+        });
+    }
+
+    private interface ChunkReader {
+        void accept(ByteBuffer buffer, int offset, int count);
+    }
+
+    private static void readBlock(@NotNull DataInputStream in, int length, @NotNull ChunkReader reader) throws IOException {
+        // Clamp in ints before converting to bytes, so huge lengths can't overflow
+        byte[] bytes = new byte[Math.max(1, Math.min(length, BUFFER_SIZE / Integer.BYTES)) * Integer.BYTES];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        for (int i = 0; i < length; ) {
+            int count = Math.min(length - i, bytes.length / Integer.BYTES);
+            in.readFully(bytes, 0, count * Integer.BYTES);
+            reader.accept(buffer, i, count);
+            i += count;
+        }
+    }
+
+    // Without arguments: benchmark scaling over worker counts. "worker <port> <id>" is used to launch workers.
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "worker".equals(args[0])) {
+            runWorker(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int maxWorkers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int[] random = new int[size];
+        int[] duplicates = new int[size];
+        for (int i = 0; i < size; i++) {
+            random[i] = (int) (Math.random() * Integer.MAX_VALUE);
+            // Half of the values are one repeated key
+            duplicates[i] = i % 2 == 0 ? 42 : random[i];
+        }
+
+        System.out.println("Size " + size + ", " + Runtime.getRuntime().availableProcessors() + " cores");
+        System.out.println("Random keys:");
+        benchmark(random, Engine.QUICK, maxWorkers);
+        // QuickSort degrades on the repeated key, so this case uses HeapSort; largestRange shows how the ties were split
+        System.out.println("Half duplicate keys:");
+        benchmark(duplicates, Engine.HEAP, maxWorkers);
+    }
+
+    private static void benchmark(int @NotNull [] input, @NotNull Engine engine, int maxWorkers) throws IOException {
+        for (int workers = 1; workers <= maxWorkers; workers *= 2) {
+            try (DistributedSampleSort sorter = new DistributedSampleSort(workers, engine)) {
+                // One warm-up run so the workers' JIT has compiled the hot loops
+                sorter.sort(input.clone());
+
+                int[] array = input.clone();
+                PhaseTimings timings = sorter.sort(array);
+                for (int i = 1; i < array.length; i++) {
+                    if (array[i - 1] > array[i]) {
+                        throw new IllegalStateException("Output not sorted at index " + i);
+                    }
+                }
+                System.out.println("  " + timings);
+            }
+        }
+    }
+}
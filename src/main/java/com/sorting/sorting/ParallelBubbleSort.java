@@ -0,0 +1,231 @@
+package com.sorting.sorting;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel versions of Bubble Sort built on odd-even transposition.
+ * Every phase compares disjoint pairs only, so the pairs of one phase can be exchanged concurrently.
+ */
+public class ParallelBubbleSort {
+
+    // Number of ints per block in the blocked variant (64 KiB, fits comfortably in L2)
+    public static final int DEFAULT_BLOCK_SIZE = 16 * 1024;
+
+    // Below this size starting threads costs more than it saves
+    private static final int SEQUENTIAL_THRESHOLD = 2048;
+
+    /**
+     * Odd-even transposition sort using all available cores
+     * @param array The array to sort
+     */
+    public static void oddEvenSort(int @NotNull [] array) {
+        oddEvenSort(array, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Odd-even transposition sort. Phase k compares (j, j+1) for every j with j % 2 == k % 2,
+     * and each worker handles a contiguous slice of those pairs.
+     * @param array The array to sort
+     * @param threads Number of workers, capped at the number of available cores
+     * @throws IllegalStateException If interrupted, the array is then only partly sorted
+     */
+    public static void oddEvenSort(int @NotNull [] array, int threads) {
+        int n = array.length;
+        int pairs = n / 2;
+        int workers = Math.min(Math.min(threads, Runtime.getRuntime().availableProcessors()), pairs);
+        if (workers <= 1 || n < SEQUENTIAL_THRESHOLD) {
+            sequentialOddEvenSort(array);
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            // Sorted once an even and an odd phase in a row made no swaps, and after at most n phases
+            int quietPhases = 0;
+            for (int phase = 0; quietPhases < 2 && phase < n; phase++) {
+                int offset = phase & 1;
+                // Pair index p covers positions (2p + offset, 2p + offset + 1)
+                int swapped = pool.submit(() -> IntStream.range(0, workers).parallel().map(w ->
+                        exchangePairs(array, (int) ((long) pairs * w / workers),
+                                (int) ((long) pairs * (w + 1) / workers), offset) ? 1 : 0).sum()).get();
+                quietPhases = swapped == 0 ? quietPhases + 1 : 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Odd-even sort interrupted, array is only partly sorted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Odd-even sort failed", e.getCause());
+        } finally {
+            shutdownAndWait(pool);
+        }
+    }
+
+    // Compare-exchange the pairs [fromPair, toPair) of one phase; returns true if anything was swapped
+    private static boolean exchangePairs(int @NotNull [] array, int fromPair, int toPair, int offset) {
+        int n = array.length;
+        boolean swapped = false;
+        for (int p = fromPair; p < toPair; p++) {
+            int j = 2 * p + offset;
+            if (j + 1 < n && array[j] > array[j + 1]) {
+                int temp = array[j];
+                array[j] = array[j + 1];
+                array[j + 1] = temp;
+                swapped = true;
+            }
+        }
+        return swapped;
+    }
+
+    // Single threaded odd-even transposition, used for small inputs
+    static void sequentialOddEvenSort(int @NotNull [] array) {
+        int n = array.length;
+        boolean sorted = false;
+        while (!sorted) {
+            sorted = true;
+            for (int offset = 0; offset < 2; offset++) {
+                for (int j = offset; j + 1 < n; j += 2) {
+                    if (array[j] > array[j + 1]) {
+                        int temp = array[j];
+                        array[j] = array[j + 1];
+                        array[j + 1] = temp;
+                        sorted = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Blocked odd-even sort with the default block size and all available cores
+     * @param array The array to sort
+     */
+    public static void blockSort(int @NotNull [] array) {
+        blockSort(array, DEFAULT_BLOCK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Blocked odd-even sort. Each block is sorted locally, then odd-even transposition runs over
+     * whole blocks: neighbouring blocks are merged and split so the left keeps the smaller half.
+     * @param array The array to sort
+     * @param blockSize Number of elements per block
+     * @param threads Number of workers, capped at the number of available cores
+     * @throws IllegalStateException If interrupted, the array is then only partly sorted
+     */
+    public static void blockSort(int @NotNull [] array, int blockSize, int threads) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+        }
+        int n = array.length;
+        int blocks = (n + blockSize - 1) / blockSize;
+        if (blocks <= 1) {
+            Arrays.sort(array);
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(threads, Runtime.getRuntime().availableProcessors())));
+        try {
+            // Sort every block on its own
+            pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(b ->
+                    Arrays.sort(array, b * blockSize, Math.min(n, (b + 1) * blockSize)))).get();
+
+            // Sorted once an even and an odd phase in a row exchanged nothing
+            int quietPhases = 0;
+            for (int phase = 0; quietPhases < 2; phase++) {
+                int first = phase & 1;
+                int exchanges = (blocks - first) / 2;
+                int changed = pool.submit(() -> IntStream.range(0, exchanges).parallel().map(e -> {
+                    int left = (first + 2 * e) * blockSize;
+                    int mid = left + blockSize;
+                    int right = Math.min(n, mid + blockSize);
+                    return mergeSplit(array, left, mid, right) ? 1 : 0;
+                }).sum()).get();
+                quietPhases = changed == 0 ? quietPhases + 1 : 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Block sort interrupted, array is only partly sorted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Block sort failed", e.getCause());
+        } finally {
+            shutdownAndWait(pool);
+        }
+    }
+
+    // Stop the pool and wait until no task is still writing to the caller's array, keeping the interrupt status
+    private static void shutdownAndWait(@NotNull ForkJoinPool pool) {
+        boolean interrupted = Thread.interrupted();
+        pool.shutdownNow();
+        while (!pool.isTerminated()) {
+            try {
+                pool.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Merge the sorted runs [left, mid) and [mid, right) in place; returns false if they were already in order
+    private static boolean mergeSplit(int @NotNull [] array, int left, int mid, int right) {
+        if (array[mid - 1] <= array[mid]) {
+            return false;
+        }
+
+        int[] merged = new int[right - left];
+        int i = left, j = mid, k = 0;
+        while (i < mid && j < right) {
+            merged[k++] = array[i] <= array[j] ? array[i++] : array[j++];
+        }
+        while (i < mid) {
+            merged[k++] = array[i++];
+        }
+        while (j < right) {
+            merged[k++] = array[j++];
+        }
+        System.arraycopy(merged, 0, array, left, merged.length);
+        return true;
+    }
+
+    // Benchmark the parallel variants against the sequential sorters
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.println("Threads: " + threads);
+
+        // Below SEQUENTIAL_THRESHOLD oddEvenSort falls back to the sequential loop, so start above it
+        for (int size : new int[]{5_000, 20_000, 100_000, 1_000_000}) {
+            int[] input = new int[size];
+            for (int i = 0; i < input.length; i++) {
+                input[i] = (int) (Math.random() * 1_000_000);
+            }
+            System.out.println("Size " + size + ":");
+
+            // The quadratic sorters are only timed where they finish in reasonable time
+            if (size <= 20_000) {
+                time("  Bubble Sort    ", input, BubbleSort::bubbleSort);
+                time(threads > 1 ? "  Odd-even       " : "  Odd-even (seq) ", input, a -> oddEvenSort(a, threads));
+            }
+            time("  Quick Sort     ", input, a -> QuickSort.quickSort(a, 0, a.length - 1));
+            time("  Block odd-even ", input, a -> blockSort(a, DEFAULT_BLOCK_SIZE, threads));
+        }
+    }
+
+    private static void time(String label, int @NotNull [] input, java.util.function.Consumer<int[]> sorter) {
+        long best = Long.MAX_VALUE;
+        // A few warm-up rounds so the JIT has compiled the hot loops
+        for (int round = 0; round < 5; round++) {
+            int[] array = input.clone();
+            long start = System.nanoTime();
+            sorter.accept(array);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.println(label + best / 1_000 + " us");
+    }
+}
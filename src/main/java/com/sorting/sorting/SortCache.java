@@ -0,0 +1,283 @@
+package com.sorting.sorting;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memoizing facade in front of QuickSort and RadixSort.
+ * Inputs are identified by a streaming hash of their contents, and sorted outputs are kept
+ * delta + varint encoded in an LRU cache bounded by a memory budget in bytes.
+ */
+public class SortCache {
+
+    // Rough per-entry overhead (key, map node, array header) added to the encoded size
+    private static final int ENTRY_OVERHEAD = 96;
+
+    // Longest array whose worst-case encoding (5 bytes per value) still fits in a byte[]
+    private static final int MAX_CACHEABLE_LENGTH = (Integer.MAX_VALUE - 18) / 5;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Create a cache
+     * @param maxBytes Memory budget for the encoded sorted results
+     */
+    public SortCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Sort the array in place with QuickSort, reusing a cached result when the same input was seen before
+     * @param array The array to sort
+     */
+    public void quickSort(int @NotNull [] array) {
+        sort(array, Algorithm.QUICK);
+    }
+
+    /**
+     * Sort the array in place with RadixSort, reusing a cached result when the same input was seen before
+     * @param array The array to sort (non-negative values, as required by RadixSort)
+     */
+    public void radixSort(int @NotNull [] array) {
+        sort(array, Algorithm.RADIX);
+    }
+
+    private void sort(int @NotNull [] array, Algorithm algorithm) {
+        if (array.length < 2) {
+            return;
+        }
+
+        Key key = Key.of(array, algorithm);
+        long sum = 0;
+        int xor = 0;
+        for (int value : array) {
+            sum += value;
+            xor ^= value;
+        }
+
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            // Sum and xor don't depend on order, so a hash collision with a different input is caught here
+            // and falls through to a real sort
+            if (entry != null && (entry.sum() != sum || entry.xor() != xor)) {
+                entry = null;
+            }
+            if (entry != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+
+        // A hit decodes a fresh copy straight into the caller's array
+        if (entry != null) {
+            decode(entry.encoded(), array);
+            return;
+        }
+
+        if (algorithm == Algorithm.QUICK) {
+            QuickSort.quickSort(array, 0, array.length - 1);
+        } else {
+            RadixSort.radixSort(array, array.length);
+        }
+        // Every value takes at least one byte, so skip encoding results that can't fit the budget
+        if (array.length <= MAX_CACHEABLE_LENGTH && (long) array.length + ENTRY_OVERHEAD <= maxBytes) {
+            int size = encodedSize(array);
+            if ((long) size + ENTRY_OVERHEAD <= maxBytes) {
+                put(key, new Entry(encode(array, size), sum, xor));
+            }
+        }
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        long size = entry.encoded().length + ENTRY_OVERHEAD;
+        if (size > maxBytes) {
+            return; // Would never fit, don't flush the whole cache for it
+        }
+
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            usedBytes -= previous.encoded().length + ENTRY_OVERHEAD;
+        }
+        usedBytes += size;
+
+        // Evict least recently used entries until we are back under budget
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            Map.Entry<Key, Entry> eldest = it.next();
+            usedBytes -= eldest.getValue().encoded().length + ENTRY_OVERHEAD;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Drop every cached result, keeping the statistics
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SortCache{hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                + ", entries=" + entries.size() + ", usedBytes=" + usedBytes + "/" + maxBytes + "}";
+    }
+
+    // Encode a sorted array: zigzag varint of the first value, then unsigned varint deltas
+    static byte @NotNull [] encode(int @NotNull [] sorted) {
+        return encode(sorted, encodedSize(sorted));
+    }
+
+    // Encode into an array of exactly size bytes, as returned by encodedSize
+    private static byte @NotNull [] encode(int @NotNull [] sorted, int size) {
+        byte[] out = new byte[size];
+        int pos = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            pos = writeVarLong(out, pos, varintValue(sorted, i));
+        }
+        return out;
+    }
+
+    // Number of bytes encode needs; at most 5 per value, so it fits an int for MAX_CACHEABLE_LENGTH values
+    static int encodedSize(int @NotNull [] sorted) {
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            // 1 byte per started group of 7 significant bits
+            size += (64 - Long.numberOfLeadingZeros(varintValue(sorted, i) | 1) + 6) / 7;
+        }
+        return size;
+    }
+
+    // Value written for position i: the zigzagged first value, then the non-negative delta to the previous value
+    private static long varintValue(int @NotNull [] sorted, int i) {
+        if (i == 0) {
+            long first = sorted[0];
+            return (first << 1) ^ (first >> 63);
+        }
+        return (long) sorted[i] - sorted[i - 1];
+    }
+
+    // Decode into target, which must have the length of the original array
+    static void decode(byte @NotNull [] encoded, int @NotNull [] target) {
+        int pos = 0;
+        long previous = 0;
+        for (int i = 0; i < target.length; i++) {
+            long raw = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = encoded[pos++];
+                raw |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            long delta = i == 0 ? (raw >>> 1) ^ -(raw & 1) : raw;
+            previous += delta;
+            target[i] = (int) previous;
+        }
+    }
+
+    // Write value at pos and return the position after it
+    private static int writeVarLong(byte @NotNull [] out, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    private enum Algorithm {
+        QUICK, RADIX
+    }
+
+    /**
+     * Cached result: the encoded sorted array plus the sum and xor of its values, checked against the input on a hit
+     */
+    private record Entry(byte @NotNull [] encoded, long sum, int xor) {
+    }
+
+    /**
+     * Content address of an input: two 64-bit hash lanes over the elements plus the length.
+     * This is a fast non-cryptographic hash, so different inputs with the same key are unlikely but possible,
+     * and can be crafted on purpose. The sum and xor check on a hit catches most of them, but not all.
+     */
+    private record Key(Algorithm algorithm, int length, long h1, long h2) {
+
+        static @NotNull Key of(int @NotNull [] array, Algorithm algorithm) {
+            long h1 = 0x9E3779B97F4A7C15L;
+            long h2 = 0xC2B2AE3D27D4EB4FL;
+            for (int value : array) {
+                h1 = Long.rotateLeft(h1 ^ value, 31) * 0x9E3779B97F4A7C15L;
+                h2 = Long.rotateLeft(h2 + value, 27) * 0xC2B2AE3D27D4EB4FL + 0x165667B19E3779F9L;
+            }
+            return new Key(algorithm, array.length, mix(h1), mix(h2));
+        }
+
+        // Final avalanche step (murmur3 fmix64)
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB93FE53A87F5L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    // Main method to show the cache at work on a repeated snapshot
+    public static void main(String[] args) {
+        SortCache cache = new SortCache(1 << 20);
+        int[] snapshot = new int[10_000];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = (int) (Math.random() * 1_000_000);
+        }
+
+        for (int round = 0; round < 5; round++) {
+            int[] array = snapshot.clone();
+            long start = System.nanoTime();
+            cache.quickSort(array);
+            System.out.println("Round " + round + ": " + (System.nanoTime() - start) / 1_000 + " us");
+        }
+
+        System.out.println(cache);
+    }
+}